@@ -1,9 +1,26 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -16,8 +33,26 @@ public class GatorTicketMaster {
     private static BinaryHeap unassignedSeats;
     private static WaitlistHeap waitlist;
     private static RedBlackTree redBlackTree;
+    // Mirrors unassignedSeats as runs of consecutive free seats for adjacent reservations
+    private static SeatRunTree freeRuns;
     private static int maxSeats = 0;
     private static StringBuilder result = new StringBuilder();
+
+    // Section-aware inventory next to the flat pool above. Section seats take IDs from the same
+    // 1..maxSeats range, and seatSections / waitlistSections route a seat or waitlisted user to its section.
+    private static Map<Integer, Section> sections = new HashMap<>();
+    private static Map<Integer, Integer> seatSections = new HashMap<>();
+    private static Map<Integer, Integer> waitlistSections = new HashMap<>();
+
+    // Seats on hold, keyed by userId. Holds expire on the logical clock kept by holdTimers.
+    private static Map<Integer, TimingWheel.Timer> holds = new HashMap<>();
+    private static TimingWheel holdTimers = new TimingWheel();
+
+    // Results of commands tagged with a request ID, replayed when a client retries the same request.
+    // The cache is created by the first tagged command, so untagged runs never allocate it.
+    private static final long DEFAULT_DEDUP_BYTES = 16L * 1024 * 1024;
+    private static long dedupBytes = DEFAULT_DEDUP_BYTES;
+    private static DedupCache dedupCache;
     
     // Time counter to simulate the Python unique timestamp logic for stability
     private static double timeCount = 1.0001;
@@ -28,6 +63,35 @@ public class GatorTicketMaster {
         result.append(text);
     }
 
+    // We mimic Python's time.time()*timeCount logic.
+    // In Java, System.nanoTime() is sufficient for ordering,
+    // but we use the double logic to strictly follow the provided logic.
+    private static double nextTimestamp() {
+        double timestamp = System.currentTimeMillis() * timeCount;
+        timeCount += 0.0001;
+        return timestamp;
+    }
+
+    // Flat and section seats share one ID range
+    private static int allocateSeatIds(int count) {
+        int firstSeat = maxSeats + 1;
+        maxSeats += count;
+        return firstSeat;
+    }
+
+    // Single-seat changes to unassignedSeats go through these helpers so freeRuns stays in step
+
+    private static void returnSeat(int seatId) {
+        unassignedSeats.insert(seatId);
+        freeRuns.setFree(seatId, true);
+    }
+
+    private static int takeLowestSeat() {
+        int seatId = unassignedSeats.extractMin();
+        freeRuns.setFree(seatId, false);
+        return seatId;
+    }
+
     // --- Core Functions ---
 
     public static void initialize(int seatCount) {
@@ -40,10 +104,17 @@ public class GatorTicketMaster {
         waitlist = new WaitlistHeap();
         unassignedSeats = new BinaryHeap();
         redBlackTree = new RedBlackTree();
+        sections.clear();
+        seatSections.clear();
+        waitlistSections.clear();
+        holds.clear();
+        holdTimers = new TimingWheel();
         
+        unassignedSeats.ensureCapacity(seatCount);
         for (int i = 1; i <= seatCount; i++) {
             unassignedSeats.insert(i);
         }
+        freeRuns = new SeatRunTree(seatCount);
         maxSeats = seatCount;
     }
 
@@ -56,21 +127,69 @@ public class GatorTicketMaster {
     public static void reserve(int userId, int userPriority) {
         if (unassignedSeats.isEmpty()) {
             // Add to waitlist
-            // We mimic Python's time.time()*timeCount logic. 
-            // In Java, System.nanoTime() is sufficient for ordering, 
-            // but we use the double logic to strictly follow the provided logic.
-            double timestamp = System.currentTimeMillis() * timeCount;
-            waitlist.insert(userId, userPriority, timestamp);
+            waitlist.insert(userId, userPriority, nextTimestamp());
             appendResult("User " + userId + " is added to the waiting list\n");
-            timeCount += 0.0001;
         } else {
-            int seatId = unassignedSeats.extractMin();
+            int seatId = takeLowestSeat();
             redBlackTree.insert(userId, seatId);
             appendResult("User " + userId + " reserved seat " + seatId + "\n");
         }
     }
 
+    public static void reserveBatch(int[] userIds, int userPriority, boolean allOrNothing) {
+        int seatsAvail = unassignedSeats.getSize();
+        if (allOrNothing && seatsAvail < userIds.length) {
+            appendResult("Group of " + userIds.length + " users could not be seated, only " + seatsAvail + " seats available\n");
+            return;
+        }
+
+        // Users keep the same seat order as consecutive Reserve calls: the i-th user gets the i-th lowest seat
+        int seated = Math.min(seatsAvail, userIds.length);
+        int[] seatIds = unassignedSeats.extractMinBatch(seated);
+        for (int i = 0; i < seated; i++) {
+            freeRuns.setFree(seatIds[i], false);
+            appendResult("User " + userIds[i] + " reserved seat " + seatIds[i] + "\n");
+        }
+
+        redBlackTree.insertBatch(Arrays.copyOf(userIds, seated), seatIds);
+
+        int waitlisted = userIds.length - seated;
+        if (waitlisted > 0) {
+            int[] waitUsers = new int[waitlisted];
+            double[] timestamps = new double[waitlisted];
+            for (int i = 0; i < waitlisted; i++) {
+                waitUsers[i] = userIds[seated + i];
+                timestamps[i] = nextTimestamp();
+                appendResult("User " + waitUsers[i] + " is added to the waiting list\n");
+            }
+            waitlist.insertBatch(waitUsers, userPriority, timestamps);
+        }
+    }
+
+    public static void reserveAdjacent(int[] userIds) {
+        int count = userIds.length;
+        int startSeat = freeRuns.findLowestRun(count);
+        if (startSeat == -1) {
+            appendResult("No block of " + count + " adjacent seats is available\n");
+            return;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int seatId = startSeat + i;
+            unassignedSeats.removeArbitrary(seatId);
+            freeRuns.setFree(seatId, false);
+            redBlackTree.insert(userIds[i], seatId);
+            appendResult("User " + userIds[i] + " reserved seat " + seatId + "\n");
+        }
+    }
+
     public static void cancel(int seatId, int userId) {
+        Integer sectionId = seatSections.get(seatId);
+        if (sectionId != null) {
+            cancelInSection(sections.get(sectionId), seatId, userId);
+            return;
+        }
+
         RedBlackTree.Node node = redBlackTree.search(userId);
         if (node != null && node.seatId == seatId) {
             appendResult("User " + userId + " canceled their reservation\n");
@@ -81,7 +200,7 @@ public class GatorTicketMaster {
                 redBlackTree.insert(topWaitlister.userId, seatId);
                 appendResult("User " + topWaitlister.userId + " reserved seat " + seatId + "\n");
             } else {
-                unassignedSeats.insert(seatId);
+                returnSeat(seatId);
             }
         } else {
             appendResult("User " + userId + " has no reservation for seat " + seatId + " to cancel\n");
@@ -89,7 +208,12 @@ public class GatorTicketMaster {
     }
 
     public static void exitWaitlist(int userId) {
-        if (waitlist.contains(userId)) {
+        Integer sectionId = waitlistSections.get(userId);
+        if (sectionId != null) {
+            sections.get(sectionId).waitlist.removeUser(userId);
+            waitlistSections.remove(userId);
+            appendResult("User " + userId + " is removed from the waiting list of section " + sectionId + "\n");
+        } else if (waitlist.contains(userId)) {
             waitlist.removeUser(userId);
             appendResult("User " + userId + " is removed from the waiting list\n");
         } else {
@@ -98,7 +222,11 @@ public class GatorTicketMaster {
     }
 
     public static void updatePriority(int userId, int userPriority) {
-        if (waitlist.contains(userId)) {
+        Integer sectionId = waitlistSections.get(userId);
+        if (sectionId != null) {
+            sections.get(sectionId).waitlist.updatePriority(userId, userPriority);
+            appendResult("User " + userId + " priority has been updated to " + userPriority + "\n");
+        } else if (waitlist.contains(userId)) {
             waitlist.updatePriority(userId, userPriority);
             appendResult("User " + userId + " priority has been updated to " + userPriority + "\n");
         } else {
@@ -115,15 +243,17 @@ public class GatorTicketMaster {
         appendResult("Additional " + count + " Seats are made available for reservation\n");
         
         List<Integer> newSeats = new ArrayList<>();
+        int firstSeat = allocateSeatIds(count);
+        unassignedSeats.ensureCapacity(maxSeats);
+        freeRuns.ensureCapacity(maxSeats);
         for (int i = 0; i < count; i++) {
-            maxSeats++;
-            newSeats.add(maxSeats);
+            newSeats.add(firstSeat + i);
         }
 
         if (!waitlist.isEmpty()) {
             for (int seatId : newSeats) {
                 if (waitlist.isEmpty()) {
-                    unassignedSeats.insert(seatId);
+                    returnSeat(seatId);
                 } else {
                     WaitlistHeap.WaitlistNode topWaitlister = waitlist.extractMax();
                     redBlackTree.insert(topWaitlister.userId, seatId);
@@ -132,7 +262,7 @@ public class GatorTicketMaster {
             }
         } else {
             for (int seatId : newSeats) {
-                unassignedSeats.insert(seatId);
+                returnSeat(seatId);
             }
         }
     }
@@ -163,7 +293,7 @@ public class GatorTicketMaster {
                 int seatId = node.seatId;
                 releasedSeats.add(new int[]{userId, seatId});
                 redBlackTree.delete(userId);
-                unassignedSeats.insert(seatId);
+                returnSeat(seatId);
             } else {
                 waitlist.removeUser(userId);
             }
@@ -174,13 +304,188 @@ public class GatorTicketMaster {
                 if (waitlist.isEmpty()) break;
                 
                 WaitlistHeap.WaitlistNode topWaitlister = waitlist.extractMax();
-                int seatId = unassignedSeats.extractMin();
+                int seatId = takeLowestSeat();
                 redBlackTree.insert(topWaitlister.userId, seatId);
                 appendResult("User " + topWaitlister.userId + " reserved seat " + seatId + "\n");
             }
         }
     }
 
+    // --- Hold Functions ---
+
+    /**
+     * Takes the lowest free seat on hold for ttl ticks of the logical clock.
+     * Without a free seat the user is waitlisted, as with reserve.
+     */
+    public static void hold(int userId, int userPriority, int ttl) {
+        if (ttl <= 0) {
+            appendResult("Invalid input. Please provide a valid hold duration.\n");
+            return;
+        }
+        TimingWheel.Timer existing = holds.get(userId);
+        if (existing != null) {
+            appendResult("User " + userId + " already holds seat " + existing.seatId + "\n");
+            return;
+        }
+
+        if (unassignedSeats.isEmpty()) {
+            waitlist.insert(userId, userPriority, nextTimestamp());
+            appendResult("User " + userId + " is added to the waiting list\n");
+        } else {
+            int seatId = takeLowestSeat();
+            TimingWheel.Timer timer = new TimingWheel.Timer(userId, seatId, holdTimers.getTime() + ttl);
+            holdTimers.schedule(timer);
+            holds.put(userId, timer);
+            appendResult("User " + userId + " holds seat " + seatId + " until tick " + timer.expiry + "\n");
+        }
+    }
+
+    public static void confirm(int userId) {
+        TimingWheel.Timer timer = holds.remove(userId);
+        if (timer == null) {
+            appendResult("User " + userId + " has no seat on hold to confirm\n");
+            return;
+        }
+
+        holdTimers.cancel(timer);
+        redBlackTree.insert(userId, timer.seatId);
+        appendResult("User " + userId + " confirmed seat " + timer.seatId + "\n");
+    }
+
+    /**
+     * Advances the logical clock. Each expired hold frees its seat for the top waitlisted user,
+     * or returns it to unassignedSeats when nobody is waiting.
+     */
+    public static void tick(int ticks) {
+        if (ticks <= 0) {
+            appendResult("Invalid input. Please provide a valid number of ticks.\n");
+            return;
+        }
+
+        List<TimingWheel.Timer> expired = new ArrayList<>();
+        holdTimers.advance(ticks, expired);
+        appendResult("Clock advanced to tick " + holdTimers.getTime() + "\n");
+
+        for (TimingWheel.Timer timer : expired) {
+            holds.remove(timer.userId);
+            appendResult("Hold of user " + timer.userId + " on seat " + timer.seatId + " expired\n");
+            if (!waitlist.isEmpty()) {
+                WaitlistHeap.WaitlistNode topWaitlister = waitlist.extractMax();
+                redBlackTree.insert(topWaitlister.userId, timer.seatId);
+                appendResult("User " + topWaitlister.userId + " reserved seat " + timer.seatId + "\n");
+            } else {
+                returnSeat(timer.seatId);
+            }
+        }
+    }
+
+    // --- Section Functions ---
+
+    public static void addSectionSeats(int sectionId, int count) {
+        if (count <= 0) {
+            appendResult("Invalid input. Please provide a valid number of seats.\n");
+            return;
+        }
+
+        Section section = sections.computeIfAbsent(sectionId, Section::new);
+        int firstSeat = allocateSeatIds(count);
+        appendResult("Additional " + count + " Seats are made available for reservation in section " + sectionId + "\n");
+
+        for (int seatId = firstSeat; seatId < firstSeat + count; seatId++) {
+            seatSections.put(seatId, sectionId);
+            if (section.waitlist.isEmpty()) {
+                section.unassignedSeats.insert(seatId);
+            } else {
+                assignFromSectionWaitlist(section, seatId);
+            }
+        }
+    }
+
+    /**
+     * Reserves the lowest free seat in the first preferred section that has one.
+     * If every preferred section is full the user joins the waitlist of the first one.
+     */
+    public static void reserveInSections(int userId, int userPriority, int[] preferredSections) {
+        Section firstChoice = null;
+        for (int sectionId : preferredSections) {
+            Section section = sections.get(sectionId);
+            if (section == null) continue;
+            if (firstChoice == null) firstChoice = section;
+
+            if (!section.unassignedSeats.isEmpty()) {
+                int seatId = section.unassignedSeats.extractMin();
+                section.reservations.insert(userId, seatId);
+                appendResult("User " + userId + " reserved seat " + seatId + " in section " + sectionId + "\n");
+                return;
+            }
+        }
+
+        if (firstChoice == null) {
+            appendResult("Invalid input. None of the requested sections exist.\n");
+            return;
+        }
+
+        firstChoice.waitlist.insert(userId, userPriority, nextTimestamp());
+        waitlistSections.put(userId, firstChoice.sectionId);
+        appendResult("User " + userId + " is added to the waiting list of section " + firstChoice.sectionId + "\n");
+    }
+
+    private static void cancelInSection(Section section, int seatId, int userId) {
+        RedBlackTree.Node node = section.reservations.search(userId);
+        if (node != null && node.seatId == seatId) {
+            appendResult("User " + userId + " canceled their reservation\n");
+            section.reservations.delete(userId);
+
+            if (!section.waitlist.isEmpty()) {
+                assignFromSectionWaitlist(section, seatId);
+            } else {
+                section.unassignedSeats.insert(seatId);
+            }
+        } else {
+            appendResult("User " + userId + " has no reservation for seat " + seatId + " to cancel\n");
+        }
+    }
+
+    private static void assignFromSectionWaitlist(Section section, int seatId) {
+        WaitlistHeap.WaitlistNode topWaitlister = section.waitlist.extractMax();
+        waitlistSections.remove(topWaitlister.userId);
+        section.reservations.insert(topWaitlister.userId, seatId);
+        appendResult("User " + topWaitlister.userId + " reserved seat " + seatId + " in section " + section.sectionId + "\n");
+    }
+
+    public static void sectionAvailable(int sectionId) {
+        Section section = sections.get(sectionId);
+        if (section == null) {
+            appendResult("Section " + sectionId + " does not exist\n");
+            return;
+        }
+
+        appendResult("Section " + sectionId + " Seats Available : " + section.unassignedSeats.getSize()
+                + ", Waitlist : " + section.waitlist.getSize() + "\n");
+    }
+
+    public static void printSectionReservations(int sectionId) {
+        Section section = sections.get(sectionId);
+        if (section == null) {
+            appendResult("Section " + sectionId + " does not exist\n");
+            return;
+        }
+
+        List<RedBlackTree.Node> reservations = section.reservations.inorderTraversal();
+        Collections.sort(reservations, Comparator.comparingInt(node -> node.seatId));
+
+        for (RedBlackTree.Node node : reservations) {
+            appendResult("Seat " + node.seatId + ", User " + node.key + ", Section " + sectionId + "\n");
+        }
+    }
+
+    public static void dedupStats() {
+        DedupCache cache = dedupCache != null ? dedupCache : new DedupCache(0);
+        appendResult("Dedup cache : hits " + cache.getHits() + ", misses " + cache.getMisses()
+                + ", conflicts " + cache.getConflicts() + ", hit rate " + String.format("%.2f", cache.hitRate() * 100)
+                + "%, entries " + cache.getSize() + ", bytes " + cache.getBytes() + "\n");
+    }
+
     public static boolean quit() {
         appendResult("Program Terminated!!\n");
         return true;
@@ -188,12 +493,239 @@ public class GatorTicketMaster {
 
     // --- Main Driver ---
 
+    // Set when the last executed command was Quit
+    private static boolean terminated = false;
+
+    public static boolean isTerminated() {
+        return terminated;
+    }
+
+    /**
+     * Runs one input line and returns the output it produced. Lines that are not a
+     * command produce no output. Used by main and by tools that drive the engine in-process.
+     */
+    public static String execute(String line) {
+        terminated = false;
+        line = line.trim();
+        if (line.isEmpty()) return "";
+
+        try {
+            // Parse command: FunctionName(arg1, arg2)
+            int openParen = line.indexOf('(');
+            int closeParen = line.indexOf(')');
+            
+            if (openParen == -1 || closeParen == -1) return "";
+
+            String funcName = line.substring(0, openParen).trim();
+            String argsStr = line.substring(openParen + 1, closeParen).trim();
+
+            String[] stringArgs = argsStr.isEmpty() ? new String[0] : argsStr.split(",");
+            List<Integer> intArgs = new ArrayList<>();
+            for (String s : stringArgs) {
+                String trimmed = s.trim();
+                if (!trimmed.isEmpty()) {
+                    intArgs.add(Integer.parseInt(trimmed));
+                }
+            }
+
+            // Optional request ID after the command: Reserve(8, 1) #1001
+            String requestTag = line.substring(closeParen + 1).trim();
+            boolean deduplicate = requestTag.startsWith("#") && !funcName.equals("Quit");
+            long requestId = deduplicate ? Long.parseLong(requestTag.substring(1).trim()) : 0;
+            long fingerprint = deduplicate ? commandFingerprint(funcName, intArgs) : 0;
+            if (deduplicate) {
+                if (dedupCache == null) dedupCache = new DedupCache(dedupBytes);
+                String cached = dedupCache.get(requestId, fingerprint);
+                if (cached != null) {
+                    return cached;
+                }
+                if (dedupCache.contains(requestId)) {
+                    return "Request ID " + requestId + " was already used for a different command\n";
+                }
+            }
+
+            switch (funcName) {
+                case "Initialize":
+                    if (!intArgs.isEmpty()) initialize(intArgs.get(0));
+                    break;
+                case "Reserve":
+                    // Reserve(userId, priority, section1, section2, ...) picks from a section preference list
+                    if (intArgs.size() > 2) {
+                        int[] preferredSections = new int[intArgs.size() - 2];
+                        for (int i = 0; i < preferredSections.length; i++) preferredSections[i] = intArgs.get(i + 2);
+                        reserveInSections(intArgs.get(0), intArgs.get(1), preferredSections);
+                    } else if (intArgs.size() == 2) {
+                        reserve(intArgs.get(0), intArgs.get(1));
+                    }
+                    break;
+                case "ReserveBatch":
+                    // ReserveBatch(n, userId1, ..., userIdn, priority[, allOrNothing])
+                    if (!intArgs.isEmpty() && intArgs.get(0) > 0 && intArgs.get(0) <= intArgs.size() - 2) {
+                        int n = intArgs.get(0);
+                        int[] userIds = new int[n];
+                        for (int i = 0; i < n; i++) userIds[i] = intArgs.get(i + 1);
+                        boolean allOrNothing = intArgs.size() > n + 2 && intArgs.get(n + 2) != 0;
+                        reserveBatch(userIds, intArgs.get(n + 1), allOrNothing);
+                    } else {
+                        appendResult("Invalid input. Please provide a user for each seat in the group and a priority.\n");
+                    }
+                    break;
+                case "ReserveAdjacent":
+                    // ReserveAdjacent(count, userId1, ..., userIdcount)
+                    if (!intArgs.isEmpty() && intArgs.get(0) > 0 && intArgs.get(0) == intArgs.size() - 1) {
+                        int count = intArgs.get(0);
+                        int[] userIds = new int[count];
+                        for (int i = 0; i < count; i++) userIds[i] = intArgs.get(i + 1);
+                        reserveAdjacent(userIds);
+                    } else {
+                        appendResult("Invalid input. Please provide a user for each adjacent seat.\n");
+                    }
+                    break;
+                case "Cancel":
+                    if (intArgs.size() >= 2) cancel(intArgs.get(0), intArgs.get(1));
+                    break;
+                case "Available":
+                    if (!intArgs.isEmpty()) sectionAvailable(intArgs.get(0));
+                    else available();
+                    break;
+                case "ExitWaitlist":
+                    if (!intArgs.isEmpty()) exitWaitlist(intArgs.get(0));
+                    break;
+                case "UpdatePriority":
+                    if (intArgs.size() >= 2) updatePriority(intArgs.get(0), intArgs.get(1));
+                    break;
+                case "AddSeats":
+                    if (intArgs.size() >= 2) addSectionSeats(intArgs.get(0), intArgs.get(1));
+                    else if (!intArgs.isEmpty()) addSeats(intArgs.get(0));
+                    break;
+                case "PrintReservations":
+                    if (!intArgs.isEmpty()) printSectionReservations(intArgs.get(0));
+                    else printReservations();
+                    break;
+                case "ReleaseSeats":
+                    if (intArgs.size() >= 2) releaseSeats(intArgs.get(0), intArgs.get(1));
+                    break;
+                case "Hold":
+                    if (intArgs.size() >= 3) hold(intArgs.get(0), intArgs.get(1), intArgs.get(2));
+                    break;
+                case "Confirm":
+                    if (!intArgs.isEmpty()) confirm(intArgs.get(0));
+                    break;
+                case "Tick":
+                    if (!intArgs.isEmpty()) tick(intArgs.get(0));
+                    break;
+                case "DedupStats":
+                    dedupStats();
+                    break;
+                case "Quit":
+                    terminated = quit();
+                    break;
+                default:
+                    break;
+            }
+
+            String output = result.toString();
+            if (deduplicate) dedupCache.put(requestId, fingerprint, output);
+            result.setLength(0); // Clear buffer
+            return output;
+
+        } catch (Exception e) {
+            return "Error processing command '" + line + "': " + e.getMessage() + "\n";
+        }
+    }
+
+    // 64-bit FNV-1a style hash over the command name and its arguments, so spacing differences in a retry still match
+    private static long commandFingerprint(String funcName, List<Integer> intArgs) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < funcName.length(); i++) {
+            hash = (hash ^ funcName.charAt(i)) * 0x100000001B3L;
+        }
+        for (int arg : intArgs) {
+            hash = (hash ^ arg) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Serves one ShardRouter connection on a loopback port. Each event keeps its own
+     * EngineState, which is swapped into the static fields before its commands run.
+     */
+    public static void runWorker(int port) throws IOException, ClassNotFoundException {
+        Map<Integer, EngineState> events = new HashMap<>();
+        Integer currentEvent = null;
+
+        try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress());
+             Socket socket = server.accept();
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                int eventId = in.readInt();
+                byte[] payload = ShardProtocol.readPayload(in);
+
+                if (currentEvent != null && (op != ShardProtocol.EXECUTE || currentEvent != eventId)) {
+                    events.put(currentEvent, EngineState.capture());
+                    currentEvent = null;
+                }
+
+                byte[] reply = new byte[0];
+                switch (op) {
+                    case ShardProtocol.EXECUTE:
+                        if (currentEvent == null) {
+                            events.computeIfAbsent(eventId, id -> EngineState.empty()).restore();
+                            currentEvent = eventId;
+                        }
+                        reply = ShardProtocol.utf8(execute(ShardProtocol.text(payload)));
+                        break;
+                    case ShardProtocol.EXPORT:
+                        EngineState state = events.remove(eventId);
+                        reply = (state != null ? state : EngineState.empty()).toBytes();
+                        break;
+                    case ShardProtocol.IMPORT:
+                        events.put(eventId, EngineState.fromBytes(payload));
+                        break;
+                    case ShardProtocol.SHUTDOWN:
+                        ShardProtocol.writePayload(out, reply);
+                        out.flush();
+                        return;
+                    default:
+                        throw new IOException("Unknown shard op " + op);
+                }
+
+                ShardProtocol.writePayload(out, reply);
+                // Replies are pipelined, so only flush once no further request is waiting
+                if (in.available() == 0) out.flush();
+            }
+        }
+    }
+
     public static void main(String[] args) {
         if (args.length < 1) {
             System.out.println("Please provide an input filename.");
             return;
         }
 
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--dedup-bytes=")) {
+                dedupBytes = Long.parseLong(args[i].substring("--dedup-bytes=".length()));
+            }
+        }
+
+        if (args[0].equals("--worker")) {
+            try {
+                runWorker(Integer.parseInt(args[1]));
+            } catch (IOException | ClassNotFoundException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         String inputFile = args[0];
         // Python code replaces .txt with _output_file.txt
         String outputFile = inputFile.replace(".txt", "_output_file.txt");
@@ -203,90 +735,592 @@ public class GatorTicketMaster {
 
             String line;
             while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
+                writer.write(execute(line));
+                if (terminated) break;
+            }
 
-                try {
-                    // Parse command: FunctionName(arg1, arg2)
-                    int openParen = line.indexOf('(');
-                    int closeParen = line.indexOf(')');
-                    
-                    if (openParen == -1 || closeParen == -1) continue;
-
-                    String funcName = line.substring(0, openParen).trim();
-                    String argsStr = line.substring(openParen + 1, closeParen).trim();
-                    
-                    String[] stringArgs = argsStr.isEmpty() ? new String[0] : argsStr.split(",");
-                    List<Integer> intArgs = new ArrayList<>();
-                    for (String s : stringArgs) {
-                        String trimmed = s.trim();
-                        if (!trimmed.isEmpty()) {
-                            intArgs.add(Integer.parseInt(trimmed));
-                        }
-                    }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ==========================================
+    // DATA STRUCTURE IMPLEMENTATIONS
+    // ==========================================
+
+    // --- Engine State ---
+    /**
+     * All per-event engine state. A shard worker keeps one of these per event it owns and
+     * swaps it into the static fields before running that event's commands. The same object,
+     * serialized, is the snapshot handed to another worker when the router rebalances.
+     */
+    static class EngineState implements Serializable {
+        private static final long serialVersionUID = 1L;
+        // Snapshots arrive over a socket, so only the engine's own classes and the JDK types they hold are accepted
+        private static final ObjectInputFilter SNAPSHOT_FILTER =
+                ObjectInputFilter.Config.createFilter("GatorTicketMaster$*;java.util.*;java.lang.*;!*");
+
+        BinaryHeap unassignedSeats;
+        WaitlistHeap waitlist;
+        RedBlackTree redBlackTree;
+        SeatRunTree freeRuns;
+        int maxSeats;
+        double timeCount;
+        Map<Integer, Section> sections;
+        Map<Integer, Integer> seatSections;
+        Map<Integer, Integer> waitlistSections;
+        Map<Integer, TimingWheel.Timer> holds;
+        TimingWheel holdTimers;
+        // Request IDs are scoped to the event, and its past results move with it
+        DedupCache dedupCache;
+
+        // State of an event that has not been initialized yet
+        static EngineState empty() {
+            EngineState state = new EngineState();
+            state.timeCount = 1.0001;
+            state.sections = new HashMap<>();
+            state.seatSections = new HashMap<>();
+            state.waitlistSections = new HashMap<>();
+            state.holds = new HashMap<>();
+            state.holdTimers = new TimingWheel();
+            return state;
+        }
 
-                    boolean shouldQuit = false;
-
-                    switch (funcName) {
-                        case "Initialize":
-                            if (!intArgs.isEmpty()) initialize(intArgs.get(0));
-                            break;
-                        case "Reserve":
-                            if (intArgs.size() >= 2) reserve(intArgs.get(0), intArgs.get(1));
-                            break;
-                        case "Cancel":
-                            if (intArgs.size() >= 2) cancel(intArgs.get(0), intArgs.get(1));
-                            break;
-                        case "Available":
-                            available();
-                            break;
-                        case "ExitWaitlist":
-                            if (!intArgs.isEmpty()) exitWaitlist(intArgs.get(0));
-                            break;
-                        case "UpdatePriority":
-                            if (intArgs.size() >= 2) updatePriority(intArgs.get(0), intArgs.get(1));
-                            break;
-                        case "AddSeats":
-                            if (!intArgs.isEmpty()) addSeats(intArgs.get(0));
-                            break;
-                        case "PrintReservations":
-                            printReservations();
-                            break;
-                        case "ReleaseSeats":
-                            if (intArgs.size() >= 2) releaseSeats(intArgs.get(0), intArgs.get(1));
-                            break;
-                        case "Quit":
-                            shouldQuit = quit();
-                            break;
-                        default:
-                            break;
+        static EngineState capture() {
+            EngineState state = new EngineState();
+            state.unassignedSeats = GatorTicketMaster.unassignedSeats;
+            state.waitlist = GatorTicketMaster.waitlist;
+            state.redBlackTree = GatorTicketMaster.redBlackTree;
+            state.freeRuns = GatorTicketMaster.freeRuns;
+            state.maxSeats = GatorTicketMaster.maxSeats;
+            state.timeCount = GatorTicketMaster.timeCount;
+            state.sections = GatorTicketMaster.sections;
+            state.seatSections = GatorTicketMaster.seatSections;
+            state.waitlistSections = GatorTicketMaster.waitlistSections;
+            state.holds = GatorTicketMaster.holds;
+            state.holdTimers = GatorTicketMaster.holdTimers;
+            state.dedupCache = GatorTicketMaster.dedupCache;
+            return state;
+        }
+
+        void restore() {
+            GatorTicketMaster.unassignedSeats = unassignedSeats;
+            GatorTicketMaster.waitlist = waitlist;
+            GatorTicketMaster.redBlackTree = redBlackTree;
+            GatorTicketMaster.freeRuns = freeRuns;
+            GatorTicketMaster.maxSeats = maxSeats;
+            GatorTicketMaster.timeCount = timeCount;
+            GatorTicketMaster.sections = sections;
+            GatorTicketMaster.seatSections = seatSections;
+            GatorTicketMaster.waitlistSections = waitlistSections;
+            GatorTicketMaster.holds = holds;
+            GatorTicketMaster.holdTimers = holdTimers;
+            GatorTicketMaster.dedupCache = dedupCache;
+        }
+
+        byte[] toBytes() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(this);
+            }
+            return bytes.toByteArray();
+        }
+
+        static EngineState fromBytes(byte[] snapshot) throws IOException, ClassNotFoundException {
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(snapshot))) {
+                in.setObjectInputFilter(SNAPSHOT_FILTER);
+                return (EngineState) in.readObject();
+            }
+        }
+    }
+
+    // --- Shard Protocol ---
+    /**
+     * Framing between ShardRouter and a shard worker. A request is an op byte, an event ID
+     * and a length-prefixed payload; a reply is a length-prefixed payload.
+     */
+    static class ShardProtocol {
+        static final byte EXECUTE = 1;  // payload: command line, reply: its output
+        static final byte EXPORT = 2;   // reply: event snapshot, the event leaves the worker
+        static final byte IMPORT = 3;   // payload: event snapshot, reply: empty
+        static final byte SHUTDOWN = 4; // reply: empty, then the worker exits
+
+        static void writeRequest(DataOutputStream out, byte op, int eventId, byte[] payload) throws IOException {
+            out.writeByte(op);
+            out.writeInt(eventId);
+            writePayload(out, payload);
+        }
+
+        static void writePayload(DataOutputStream out, byte[] payload) throws IOException {
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+
+        static byte[] readPayload(DataInputStream in) throws IOException {
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            return payload;
+        }
+
+        static byte[] utf8(String text) {
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        static String text(byte[] payload) {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    // --- Section ---
+    /**
+     * One price section with its own free pool, waitlist and reservations.
+     */
+    static class Section implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final int sectionId;
+        final BinaryHeap unassignedSeats = new BinaryHeap();
+        final WaitlistHeap waitlist = new WaitlistHeap();
+        final RedBlackTree reservations = new RedBlackTree();
+
+        Section(int sectionId) {
+            this.sectionId = sectionId;
+        }
+    }
+
+    // --- Hierarchical Timing Wheel ---
+    /**
+     * Hierarchical timing wheel on a logical clock: LEVELS wheels of SLOTS slots each,
+     * where a slot on level L spans SLOTS^L ticks. A timer lives in one doubly linked slot
+     * list, so scheduling and cancelling are O(1). Each tick expires one level 0 slot,
+     * and every SLOTS^L ticks one level L slot is cascaded down a level.
+     */
+    static class TimingWheel implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private static final int SLOT_BITS = 6;
+        private static final int SLOTS = 1 << SLOT_BITS;
+        private static final int SLOT_MASK = SLOTS - 1;
+        private static final int LEVELS = 4;
+        private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+        static class Timer implements Serializable {
+            private static final long serialVersionUID = 1L;
+            int userId;
+            int seatId;
+            long expiry;
+            int level, slot;
+            transient Timer prev, next;
+
+            Timer(int userId, int seatId, long expiry) {
+                this.userId = userId;
+                this.seatId = seatId;
+                this.expiry = expiry;
+            }
+        }
+
+        // slots[LEVELS] holds timers too far out for the top wheel; it is recast once per SPAN ticks
+        private transient Timer[][] slots = new Timer[LEVELS + 1][SLOTS];
+        private long now = 0;
+        private int size = 0;
+
+        public long getTime() {
+            return now;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void schedule(Timer timer) {
+            size++;
+            link(timer);
+        }
+
+        public void cancel(Timer timer) {
+            size--;
+            unlink(timer);
+        }
+
+        /**
+         * Moves the clock forward and collects every timer that expired, in expiry order
+         * and by seatId within a tick. An empty wheel skips ahead without ticking.
+         */
+        public void advance(long ticks, List<Timer> expired) {
+            for (long i = 0; i < ticks; i++) {
+                if (size == 0) {
+                    now += ticks - i;
+                    return;
+                }
+                now++;
+
+                // Cascade from the highest wheel down, so timers recast from a higher level
+                // can still land in a lower level slot that is due on this same tick
+                int top = 0;
+                while (top < LEVELS && (now & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+                    top++;
+                }
+                for (int level = top; level >= 1; level--) {
+                    int slot = level < LEVELS ? (int) ((now >> (SLOT_BITS * level)) & SLOT_MASK) : 0;
+                    Timer timer = slots[level][slot];
+                    slots[level][slot] = null;
+                    while (timer != null) {
+                        Timer next = timer.next;
+                        timer.prev = null;
+                        timer.next = null;
+                        link(timer);
+                        timer = next;
                     }
+                }
+
+                int slot = (int) (now & SLOT_MASK);
+                int first = expired.size();
+                Timer timer = slots[0][slot];
+                slots[0][slot] = null;
+                while (timer != null) {
+                    Timer next = timer.next;
+                    timer.prev = null;
+                    timer.next = null;
+                    expired.add(timer);
+                    size--;
+                    timer = next;
+                }
+                if (expired.size() - first > 1) {
+                    expired.subList(first, expired.size()).sort(Comparator.comparingInt(t -> t.seatId));
+                }
+            }
+        }
 
-                    writer.write(result.toString());
-                    result.setLength(0); // Clear buffer
+        private void link(Timer timer) {
+            long delta = Math.max(timer.expiry - now, 0);
+            int level = 0;
+            while (level < LEVELS && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+                level++;
+            }
+            int slot = level < LEVELS ? (int) ((timer.expiry >> (SLOT_BITS * level)) & SLOT_MASK) : 0;
+
+            timer.level = level;
+            timer.slot = slot;
+            timer.prev = null;
+            timer.next = slots[level][slot];
+            if (timer.next != null) timer.next.prev = timer;
+            slots[level][slot] = timer;
+        }
 
-                    if (shouldQuit) break;
+        private void unlink(Timer timer) {
+            if (timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                slots[timer.level][timer.slot] = timer.next;
+            }
+            if (timer.next != null) timer.next.prev = timer.prev;
+            timer.prev = null;
+            timer.next = null;
+        }
 
-                } catch (Exception e) {
-                    writer.write("Error processing command '" + line + "': " + e.getMessage() + "\n");
+        // Slot lists are written as a flat sequence, so long lists never recurse through next links
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            for (Timer[] level : slots) {
+                for (Timer head : level) {
+                    for (Timer timer = head; timer != null; timer = timer.next) {
+                        out.writeObject(timer);
+                    }
                 }
             }
+        }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            slots = new Timer[LEVELS + 1][SLOTS];
+            for (int i = 0; i < size; i++) {
+                link((Timer) in.readObject());
+            }
         }
     }
 
-    // ==========================================
-    // DATA STRUCTURE IMPLEMENTATIONS
-    // ==========================================
+    // --- Request Dedup Cache ---
+    /**
+     * Bounded cache from request ID to command output with CLOCK eviction.
+     * Entries live in fixed arrays and are found through an open addressing table of
+     * long keys, so a lookup never boxes. Size is bounded by an estimated byte budget.
+     * Each entry keeps a fingerprint of its command, so a reused ID is told apart from a retry.
+     * Only live entries are serialized, so a snapshot does not carry the empty slots.
+     */
+    static class DedupCache implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private static final int ENTRY_OVERHEAD_BYTES = 72;
+        private static final int MAX_ENTRIES = 1 << 24;
+        private static final int INITIAL_SLOTS = 16;
+
+        private final long maxBytes;
+        private final int capacity;
+        // Slot arrays start small and double on demand up to capacity, so an event that sees
+        // a handful of request IDs does not pay for the whole budget
+        private transient long[] keys;
+        private transient long[] fingerprints;
+        private transient String[] values;
+        private transient boolean[] referenced;
+        private transient int[] freeSlots;
+        private transient int freeTop;
+
+        // Open addressing index over entry slots, storing slot + 1 so that 0 means empty
+        private transient int[] index;
+        private transient int indexMask;
+
+        private int hand = 0;
+        private int size = 0;
+        private long bytes = 0;
+        private long hits = 0;
+        private long misses = 0;
+        private long conflicts = 0;
+
+        public DedupCache(long maxBytes) {
+            this.maxBytes = Math.max(maxBytes, ENTRY_OVERHEAD_BYTES);
+            this.capacity = (int) Math.min(this.maxBytes / ENTRY_OVERHEAD_BYTES, MAX_ENTRIES);
+            allocate(Math.min(INITIAL_SLOTS, capacity));
+            pushFreeSlots(0);
+        }
+
+        private void allocate(int length) {
+            keys = new long[length];
+            fingerprints = new long[length];
+            values = new String[length];
+            referenced = new boolean[length];
+            freeSlots = new int[length];
+            allocateIndex(length);
+        }
+
+        private void allocateIndex(int length) {
+            int indexSize = Integer.highestOneBit(length) << 2;
+            index = new int[indexSize];
+            indexMask = indexSize - 1;
+        }
+
+        // Pushes slots from..length-1 so the lowest one is handed out first
+        private void pushFreeSlots(int from) {
+            for (int slot = keys.length - 1; slot >= from; slot--) {
+                freeSlots[freeTop++] = slot;
+            }
+        }
+
+        // Only called when every slot is in use, so the live entries are exactly slots 0..length-1
+        private void grow() {
+            int length = keys.length;
+            int newLength = (int) Math.min(2L * length, capacity);
+            keys = Arrays.copyOf(keys, newLength);
+            fingerprints = Arrays.copyOf(fingerprints, newLength);
+            values = Arrays.copyOf(values, newLength);
+            referenced = Arrays.copyOf(referenced, newLength);
+            freeSlots = new int[newLength];
+            pushFreeSlots(length);
+
+            allocateIndex(newLength);
+            for (int slot = 0; slot < length; slot++) {
+                addToIndex(slot);
+            }
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getConflicts() {
+            return conflicts;
+        }
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        public boolean contains(long key) {
+            return find(key) != -1;
+        }
+
+        /**
+         * Returns the output stored for key, or null when key is absent or was stored for a
+         * command with another fingerprint.
+         */
+        public String get(long key, long fingerprint) {
+            int pos = find(key);
+            if (pos == -1) {
+                misses++;
+                return null;
+            }
+            int slot = index[pos] - 1;
+            if (fingerprints[slot] != fingerprint) {
+                conflicts++;
+                return null;
+            }
+            hits++;
+            referenced[slot] = true;
+            return values[slot];
+        }
+
+        public void put(long key, long fingerprint, String value) {
+            long entryBytes = entryBytes(value);
+            if (entryBytes > maxBytes) return;
+
+            int pos = find(key);
+            if (pos != -1) {
+                int slot = index[pos] - 1;
+                bytes += entryBytes - entryBytes(values[slot]);
+                fingerprints[slot] = fingerprint;
+                values[slot] = value;
+                referenced[slot] = true;
+            } else {
+                while (size == capacity || bytes + entryBytes > maxBytes) {
+                    evict();
+                }
+                if (freeTop == 0) grow();
+                int slot = freeSlots[--freeTop];
+                keys[slot] = key;
+                fingerprints[slot] = fingerprint;
+                values[slot] = value;
+                referenced[slot] = false;
+                size++;
+                bytes += entryBytes;
+                addToIndex(slot);
+            }
+            while (bytes > maxBytes) {
+                evict();
+            }
+        }
+
+        private long entryBytes(String value) {
+            return ENTRY_OVERHEAD_BYTES + 2L * value.length();
+        }
+
+        // Sweeps the clock hand past recently used entries, clearing their bit, and drops the first unused one
+        private void evict() {
+            while (values[hand] == null || referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1) % values.length;
+            }
+
+            int slot = hand;
+            hand = (hand + 1) % values.length;
+            removeFromIndex(find(keys[slot]));
+            bytes -= entryBytes(values[slot]);
+            values[slot] = null;
+            freeSlots[freeTop++] = slot;
+            size--;
+        }
+
+        private void addToIndex(int slot) {
+            int i = hash(keys[slot]);
+            while (index[i] != 0) i = (i + 1) & indexMask;
+            index[i] = slot + 1;
+        }
+
+        private int find(long key) {
+            int i = hash(key);
+            while (index[i] != 0) {
+                if (keys[index[i] - 1] == key) return i;
+                i = (i + 1) & indexMask;
+            }
+            return -1;
+        }
+
+        // Backward shift deletion keeps every probe chain unbroken without tombstones
+        private void removeFromIndex(int hole) {
+            index[hole] = 0;
+            int i = (hole + 1) & indexMask;
+            while (index[i] != 0) {
+                int home = hash(keys[index[i] - 1]);
+                boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (movable) {
+                    index[hole] = index[i];
+                    index[i] = 0;
+                    hole = i;
+                }
+                i = (i + 1) & indexMask;
+            }
+        }
+
+        private int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & indexMask;
+        }
+
+        // Entries keep their slots, so the CLOCK hand resumes where it stopped
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            out.writeInt(keys.length);
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (values[slot] == null) continue;
+                out.writeInt(slot);
+                out.writeLong(keys[slot]);
+                out.writeLong(fingerprints[slot]);
+                out.writeBoolean(referenced[slot]);
+                out.writeObject(values[slot]);
+            }
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            int length = in.readInt();
+            if (length < 1 || length > capacity || size > length || hand >= length) {
+                throw new InvalidObjectException("Corrupt dedup cache state");
+            }
+            allocate(length);
+            for (int i = 0; i < size; i++) {
+                int slot = in.readInt();
+                if (slot < 0 || slot >= length || values[slot] != null) {
+                    throw new InvalidObjectException("Corrupt dedup cache state");
+                }
+                keys[slot] = in.readLong();
+                fingerprints[slot] = in.readLong();
+                referenced[slot] = in.readBoolean();
+                values[slot] = (String) in.readObject();
+                addToIndex(slot);
+            }
+            for (int slot = length - 1; slot >= 0; slot--) {
+                if (values[slot] == null) freeSlots[freeTop++] = slot;
+            }
+        }
+    }
 
     // --- Binary Heap (Min Heap) ---
-    static class BinaryHeap {
+    static class BinaryHeap implements Serializable {
+        private static final long serialVersionUID = 1L;
         private List<Integer> heap;
+        // Heap index + 1 of each seat ID, 0 when absent. Seat IDs are dense, so a flat array
+        // indexed by ID replaces a map and keeps swaps free of boxing.
+        private int[] itemPositions;
 
         public BinaryHeap() {
             this.heap = new ArrayList<>();
+            this.itemPositions = new int[16];
+        }
+
+        public boolean contains(int item) {
+            return item < itemPositions.length && itemPositions[item] != 0;
+        }
+
+        /**
+         * Grows the position array by doubling so that items up to maxItem can be stored.
+         */
+        public void ensureCapacity(int maxItem) {
+            if (maxItem < itemPositions.length) return;
+            int length = itemPositions.length;
+            while (length <= maxItem) length <<= 1;
+            itemPositions = Arrays.copyOf(itemPositions, length);
+        }
+
+        private void setPosition(int item, int idx) {
+            itemPositions[item] = idx + 1;
         }
 
         public boolean isEmpty() {
@@ -298,33 +1332,115 @@ public class GatorTicketMaster {
         }
 
         public void insert(int item) {
+            ensureCapacity(item);
             heap.add(item);
+            setPosition(item, heap.size() - 1);
             heapifyBottomUp(heap.size() - 1);
         }
 
         public int extractMin() {
             if (heap.isEmpty()) return 0;
             int minVal = heap.get(0);
+            itemPositions[minVal] = 0;
             int lastVal = heap.remove(heap.size() - 1);
             
             if (!heap.isEmpty()) {
                 heap.set(0, lastVal);
+                setPosition(lastVal, 0);
                 heapifyTopDown(0);
             }
             return minVal;
         }
 
-        // remove_arbitrary implementation from Python logic
+        /**
+         * Removes the k smallest items, returned in ascending order, without k sift-downs from the root.
+         * The k smallest form a subtree hanging from the root, so they are found by expanding a
+         * frontier from the root in O(k log k). Their slots are refilled from the end of the array
+         * and sifted down deepest first, which is O(k log(n / k)) instead of O(k log n).
+         */
+        public int[] extractMinBatch(int k) {
+            int n = heap.size();
+            k = Math.min(k, n);
+            int[] batch = new int[k];
+            if (k == 0) return batch;
+
+            // Heap indexes on the frontier, kept as a small min-heap ordered by heap value
+            int[] frontier = new int[k + 1];
+            int frontierSize = 1;
+            int[] taken = new int[k];
+            for (int i = 0; i < k; i++) {
+                int idx = frontier[0];
+                frontier[0] = frontier[--frontierSize];
+                siftFrontierDown(frontier, frontierSize);
+                batch[i] = heap.get(idx);
+                taken[i] = idx;
+                itemPositions[batch[i]] = 0;
+                if (2 * idx + 1 < n) pushFrontier(frontier, frontierSize++, 2 * idx + 1);
+                if (2 * idx + 2 < n) pushFrontier(frontier, frontierSize++, 2 * idx + 2);
+            }
+
+            // Each taken slot below the new size gets the last item not taken itself
+            Arrays.sort(taken);
+            int newSize = n - k;
+            int tail = n - 1;
+            int highest = k - 1;
+            int filled = 0;
+            while (filled < k && taken[filled] < newSize) {
+                while (highest >= 0 && taken[highest] == tail) {
+                    highest--;
+                    tail--;
+                }
+                int item = heap.get(tail--);
+                heap.set(taken[filled], item);
+                setPosition(item, taken[filled]);
+                filled++;
+            }
+            heap.subList(newSize, n).clear();
+
+            // Children are sifted before their parents, so each sift starts above valid heaps
+            for (int i = filled - 1; i >= 0; i--) {
+                heapifyTopDown(taken[i]);
+            }
+            return batch;
+        }
+
+        private void pushFrontier(int[] frontier, int idx, int heapIdx) {
+            int value = heap.get(heapIdx);
+            while (idx > 0 && heap.get(frontier[(idx - 1) / 2]) > value) {
+                frontier[idx] = frontier[(idx - 1) / 2];
+                idx = (idx - 1) / 2;
+            }
+            frontier[idx] = heapIdx;
+        }
+
+        private void siftFrontierDown(int[] frontier, int size) {
+            int idx = 0;
+            while (2 * idx + 1 < size) {
+                int child = 2 * idx + 1;
+                if (child + 1 < size && heap.get(frontier[child + 1]) < heap.get(frontier[child])) child++;
+                if (heap.get(frontier[idx]) <= heap.get(frontier[child])) return;
+                int temp = frontier[idx];
+                frontier[idx] = frontier[child];
+                frontier[child] = temp;
+                idx = child;
+            }
+        }
+
+        // remove_arbitrary implementation from Python logic, located through itemPositions instead of a scan
         public void removeArbitrary(int item) {
-            int idx = heap.indexOf(item);
-            if (idx == -1) {
+            if (!contains(item)) {
                 System.out.println("Not Found in the heap!");
                 return;
             }
 
+            int idx = itemPositions[item] - 1;
+            itemPositions[item] = 0;
             int lastVal = heap.get(heap.size() - 1);
             heap.set(idx, lastVal);
             heap.remove(heap.size() - 1);
+            if (idx < heap.size()) {
+                setPosition(lastVal, idx);
+            }
 
             if (idx < heap.size()) {
                 heapifyBottomUp(idx);
@@ -363,13 +1479,128 @@ public class GatorTicketMaster {
             int temp = heap.get(i);
             heap.set(i, heap.get(j));
             heap.set(j, temp);
+
+            setPosition(heap.get(i), i);
+            setPosition(heap.get(j), j);
+        }
+    }
+
+    // --- Free Seat Run Tree (Segment Tree) ---
+    /**
+     * Segment tree over seat IDs that tracks runs of consecutive free seats.
+     * Each node keeps the longest free prefix, suffix and run inside its range,
+     * so the lowest block of a given length is found in one root-to-leaf walk.
+     */
+    static class SeatRunTree implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private int capacity;
+        private int[] prefix;
+        private int[] suffix;
+        private int[] best;
+
+        public SeatRunTree(int freeSeats) {
+            capacity = 1;
+            while (capacity < Math.max(freeSeats, 1)) capacity <<= 1;
+            prefix = new int[2 * capacity];
+            suffix = new int[2 * capacity];
+            best = new int[2 * capacity];
+            for (int i = 0; i < freeSeats; i++) {
+                setLeaf(capacity + i, true);
+            }
+            rebuild();
+        }
+
+        public int longestRun() {
+            return best[1];
+        }
+
+        /**
+         * Grows the tree by doubling so that seat IDs up to seatCount can be tracked.
+         */
+        public void ensureCapacity(int seatCount) {
+            if (seatCount <= capacity) return;
+            int newCapacity = capacity;
+            while (newCapacity < seatCount) newCapacity <<= 1;
+
+            int[] oldBest = best;
+            int oldCapacity = capacity;
+            capacity = newCapacity;
+            prefix = new int[2 * capacity];
+            suffix = new int[2 * capacity];
+            best = new int[2 * capacity];
+            for (int i = 0; i < oldCapacity; i++) {
+                setLeaf(capacity + i, oldBest[oldCapacity + i] == 1);
+            }
+            rebuild();
+        }
+
+        public void setFree(int seatId, boolean free) {
+            int idx = capacity + seatId - 1;
+            setLeaf(idx, free);
+            int half = 1;
+            for (idx >>= 1; idx >= 1; idx >>= 1) {
+                pull(idx, half);
+                half <<= 1;
+            }
+        }
+
+        /**
+         * Returns the first seat of the lowest block of count free seats, or -1 if none exists.
+         */
+        public int findLowestRun(int count) {
+            if (count <= 0 || best[1] < count) return -1;
+
+            int idx = 1;
+            int lo = 1;
+            int half = capacity >> 1;
+            while (half > 0) {
+                int left = 2 * idx;
+                int right = left + 1;
+                if (best[left] >= count) {
+                    idx = left;
+                } else if (suffix[left] + prefix[right] >= count) {
+                    return lo + half - suffix[left];
+                } else {
+                    idx = right;
+                    lo += half;
+                }
+                half >>= 1;
+            }
+            return lo;
+        }
+
+        private void setLeaf(int idx, boolean free) {
+            int v = free ? 1 : 0;
+            prefix[idx] = v;
+            suffix[idx] = v;
+            best[idx] = v;
+        }
+
+        private void rebuild() {
+            int half = 1;
+            for (int levelStart = capacity >> 1; levelStart >= 1; levelStart >>= 1) {
+                for (int idx = levelStart; idx < 2 * levelStart; idx++) {
+                    pull(idx, half);
+                }
+                half <<= 1;
+            }
+        }
+
+        private void pull(int idx, int half) {
+            int left = 2 * idx;
+            int right = left + 1;
+            prefix[idx] = prefix[left] == half ? half + prefix[right] : prefix[left];
+            suffix[idx] = suffix[right] == half ? half + suffix[left] : suffix[right];
+            best[idx] = Math.max(Math.max(best[left], best[right]), suffix[left] + prefix[right]);
         }
     }
 
     // --- Waitlist Max Binary Heap ---
-    static class WaitlistHeap {
+    static class WaitlistHeap implements Serializable {
+        private static final long serialVersionUID = 1L;
         
-        static class WaitlistNode {
+        static class WaitlistNode implements Serializable {
+            private static final long serialVersionUID = 1L;
             int userId;
             int priority;
             double timestamp;
@@ -418,6 +1649,30 @@ public class GatorTicketMaster {
             heapifyBottomUp(heap.size() - 1);
         }
 
+        /**
+         * Adds a group of users with the same priority. A large group relative to the
+         * heap is appended and the whole heap rebuilt bottom-up instead of sifting each one.
+         */
+        public void insertBatch(int[] userIds, int priority, double[] timestamps) {
+            int m = userIds.length;
+            int total = heap.size() + m;
+            int logTotal = 32 - Integer.numberOfLeadingZeros(total);
+            if ((long) m * logTotal <= total) {
+                for (int i = 0; i < m; i++) {
+                    insert(userIds[i], priority, timestamps[i]);
+                }
+                return;
+            }
+
+            for (int i = 0; i < m; i++) {
+                heap.add(new WaitlistNode(userIds[i], priority, timestamps[i]));
+                userPositions.put(userIds[i], heap.size() - 1);
+            }
+            for (int i = heap.size() / 2 - 1; i >= 0; i--) {
+                heapifyTopDown(i);
+            }
+        }
+
         public WaitlistNode extractMax() {
             if (heap.isEmpty()) return null;
             
@@ -515,11 +1770,13 @@ public class GatorTicketMaster {
     }
 
     // --- Red Black Tree ---
-    static class RedBlackTree {
+    static class RedBlackTree implements Serializable {
+        private static final long serialVersionUID = 1L;
         
         enum Color { RED, BLACK }
 
-        static class Node {
+        static class Node implements Serializable {
+            private static final long serialVersionUID = 1L;
             Integer key; // userId
             int seatId;
             Node left, right, parent;
@@ -621,6 +1878,117 @@ public class GatorTicketMaster {
             insertFixup(node);
         }
 
+        /**
+         * Inserts k reservations in any key order. The keys are sorted first. While
+         * k log(n + k) stays below n + k each one is inserted starting from the previous
+         * insertion point, so the search only covers the gap between neighbouring keys:
+         * O(k log(n / k)) comparisons, plus a walk up the parent links to update sizes.
+         * Larger batches are merged with the existing nodes in key order, and the whole
+         * tree is relinked balanced in O(n + k log k).
+         */
+        public void insertBatch(int[] keys, int[] seatIds) {
+            int k = keys.length;
+            if (k == 0) return;
+
+            // Key in the high half and batch index in the low half, so a primitive sort orders by key
+            long[] order = new long[k];
+            for (int i = 0; i < k; i++) {
+                order[i] = ((long) keys[i] << 32) | i;
+            }
+            Arrays.sort(order);
+
+            int total = root.size + k;
+            int logTotal = 32 - Integer.numberOfLeadingZeros(total);
+            if ((long) k * logTotal <= total) {
+                Node finger = NIL;
+                for (int i = 0; i < k; i++) {
+                    int idx = (int) order[i];
+                    finger = insertAfter(finger, keys[idx], seatIds[idx]);
+                }
+                return;
+            }
+
+            // Existing nodes go before new ones with an equal key, as they would with insert
+            List<Node> existing = inorderTraversal();
+            Node[] nodes = new Node[total];
+            int e = 0;
+            int b = 0;
+            for (int i = 0; i < total; i++) {
+                if (b == k || (e < existing.size() && existing.get(e).key <= (int) (order[b] >> 32))) {
+                    nodes[i] = existing.get(e++);
+                } else {
+                    int idx = (int) order[b++];
+                    nodes[i] = new Node(keys[idx]);
+                    nodes[i].seatId = seatIds[idx];
+                }
+            }
+
+            // Every level above the deepest is full, so only the deepest level is colored red
+            int redDepth = 31 - Integer.numberOfLeadingZeros(total);
+            root = buildBalanced(nodes, 0, total - 1, 0, redDepth, NIL);
+            root.color = Color.BLACK;
+        }
+
+        /**
+         * Inserts a key no smaller than finger's key, searching from the lowest ancestor of
+         * finger whose subtree can hold it. Searches from the root when finger is NIL.
+         */
+        private Node insertAfter(Node finger, int key, int seatId) {
+            Node start = root;
+            Node y = NIL;
+            if (finger != NIL) {
+                start = finger;
+                // Keys equal to a node go right, so a left subtree only holds keys below its parent
+                while (start.parent != NIL && !(start == start.parent.left && key < start.parent.key)) {
+                    start = start.parent;
+                }
+                y = start.parent;
+                for (Node above = y; above != NIL; above = above.parent) {
+                    above.size++;
+                }
+            }
+
+            Node node = new Node(key);
+            node.seatId = seatId;
+            node.left = NIL;
+            node.right = NIL;
+
+            Node x = start;
+            while (x != NIL) {
+                y = x;
+                x.size++;
+                if (node.key < x.key) {
+                    x = x.left;
+                } else {
+                    x = x.right;
+                }
+            }
+
+            node.parent = y;
+            if (y == NIL) {
+                root = node;
+            } else if (node.key < y.key) {
+                y.left = node;
+            } else {
+                y.right = node;
+            }
+
+            insertFixup(node);
+            return node;
+        }
+
+        private Node buildBalanced(Node[] nodes, int lo, int hi, int depth, int redDepth, Node parent) {
+            if (lo > hi) return NIL;
+            int mid = (lo + hi) >>> 1;
+            Node node = nodes[mid];
+            node.parent = parent;
+            node.color = (depth == redDepth && depth > 0) ? Color.RED : Color.BLACK;
+            node.left = buildBalanced(nodes, lo, mid - 1, depth + 1, redDepth, node);
+            node.right = buildBalanced(nodes, mid + 1, hi, depth + 1, redDepth, node);
+            node.size = hi - lo + 1;
+            return node;
+        }
+
         private void insertFixup(Node node) {
             while (node.parent.color == Color.RED) {
                 if (node.parent == node.parent.parent.left) {
@@ -0,0 +1,153 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs GatorTicketMaster over generated workloads.
+ *
+ * Scaling mode (default) runs one workload per scale step in-process and reports
+ * throughput and the heap retained by the engine. Diff mode runs small seeded workloads
+ * through both the Java engine and gatorTicketMaster.py and reports the first line
+ * where their outputs differ, to catch drift when optimizations land.
+ *
+ * Usage:
+ *   java ScalingHarness [--scales=1000,10000,100000,1000000] [--seed=42]
+ *   java ScalingHarness --diff [--seeds=20] [--users=200] [--python=gatorTicketMaster.py]
+ */
+public class ScalingHarness {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        boolean diff = false;
+        String scales = "1000,10000,100000,1000000";
+        long seed = 42;
+        int seeds = 20;
+        int users = 200;
+        String python = "gatorTicketMaster.py";
+
+        for (String arg : args) {
+            if (arg.equals("--diff")) diff = true;
+            else if (arg.startsWith("--scales=")) scales = arg.substring("--scales=".length());
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring("--seed=".length()));
+            else if (arg.startsWith("--seeds=")) seeds = Integer.parseInt(arg.substring("--seeds=".length()));
+            else if (arg.startsWith("--users=")) users = Integer.parseInt(arg.substring("--users=".length()));
+            else if (arg.startsWith("--python=")) python = arg.substring("--python=".length());
+        }
+
+        if (diff) {
+            int mismatches = diffAgainstPython(python, seeds, users);
+            if (mismatches > 0) System.exit(1);
+        } else {
+            runScaling(scales, seed);
+        }
+    }
+
+    // --- Scaling ---
+
+    private static void runScaling(String scales, long seed) {
+        System.out.println(String.format("%10s %10s %10s %14s %12s", "users", "commands", "seconds", "ops/sec", "retained MB"));
+
+        for (String scale : scales.split(",")) {
+            int users = Integer.parseInt(scale.trim());
+            List<String> commands = WorkloadGenerator.generate(users, seed);
+
+            // Drop the previous step's engine state, so the baseline only holds static setup and the commands
+            GatorTicketMaster.execute("Initialize(1)");
+            long baseline = usedHeap();
+            long start = System.nanoTime();
+            long outputChars = 0;
+            for (String command : commands) {
+                outputChars += GatorTicketMaster.execute(command).length();
+                if (GatorTicketMaster.isTerminated()) break;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            // Engine state stays reachable until the next Initialize, so this is what it retains
+            double retainedMb = (usedHeap() - baseline) / (1024.0 * 1024.0);
+
+            System.out.println(String.format("%10d %10d %10.3f %14.0f %12.1f",
+                    users, commands.size(), seconds, commands.size() / seconds, retainedMb));
+            if (outputChars == 0) System.out.println("No output produced for " + users + " users");
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // --- Differential ---
+
+    private static int diffAgainstPython(String python, int seeds, int users) throws IOException, InterruptedException {
+        File script = new File(python).getAbsoluteFile();
+        Path workDir = Files.createTempDirectory("gator-diff");
+        int mismatches = 0;
+
+        for (long seed = 1; seed <= seeds; seed++) {
+            List<String> commands = WorkloadGenerator.generate(users, seed);
+            File input = workDir.resolve("seed" + seed + ".txt").toFile();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(input))) {
+                for (String command : commands) {
+                    writer.write(command);
+                    writer.newLine();
+                }
+            }
+
+            Process process = new ProcessBuilder("python3", script.getPath(), input.getPath())
+                    .directory(script.getParentFile())
+                    .inheritIO()
+                    .start();
+            if (process.waitFor() != 0) {
+                System.out.println("seed " + seed + ": python run failed");
+                mismatches++;
+                continue;
+            }
+            File pythonOutput = new File(input.getPath().replace(".txt", "_output_file.txt"));
+            List<String> expected = Files.readAllLines(pythonOutput.toPath(), StandardCharsets.UTF_8);
+            expected.removeIf(String::isEmpty);
+
+            StringBuilder javaOutput = new StringBuilder();
+            for (String command : commands) {
+                javaOutput.append(GatorTicketMaster.execute(command));
+                if (GatorTicketMaster.isTerminated()) break;
+            }
+            List<String> actual = splitLines(javaOutput.toString());
+
+            int line = firstDifference(expected, actual);
+            if (line == -1) {
+                System.out.println("seed " + seed + ": OK (" + actual.size() + " lines)");
+            } else {
+                mismatches++;
+                System.out.println("seed " + seed + ": outputs differ at line " + (line + 1) + " of " + input.getPath());
+                System.out.println("  python: " + (line < expected.size() ? expected.get(line) : "<end of output>"));
+                System.out.println("  java  : " + (line < actual.size() ? actual.get(line) : "<end of output>"));
+            }
+        }
+
+        System.out.println(mismatches == 0 ? "All " + seeds + " seeds match" : mismatches + " of " + seeds + " seeds differ");
+        return mismatches;
+    }
+
+    private static List<String> splitLines(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (!line.isEmpty()) lines.add(line);
+        }
+        return lines;
+    }
+
+    private static int firstDifference(List<String> expected, List<String> actual) {
+        int shared = Math.min(expected.size(), actual.size());
+        for (int i = 0; i < shared; i++) {
+            if (!expected.get(i).equals(actual.get(i))) return i;
+        }
+        return expected.size() == actual.size() ? -1 : shared;
+    }
+}
@@ -0,0 +1,383 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Sharded front end for GatorTicketMaster. Events are placed on worker processes
+ * (GatorTicketMaster --worker) with consistent hashing and reached over loopback sockets.
+ * Commands are pipelined to their owning shard, and replies are written back in input order.
+ *
+ * Input lines carry the event they belong to, e.g. "7: Reserve(1, 2)". Lines without an
+ * event are router commands:
+ *   AddShard()          starts a worker and moves the events it now owns onto it
+ *   RemoveShard(shard)  moves a worker's events to the remaining shards and stops it
+ *   Quit()              stops all workers
+ *
+ * Events move between shards as EngineState snapshots, so a rebalance only touches
+ * the events whose owner changed on the ring. A snapshot includes the event's request ID
+ * cache, so a retry after a rebalance still replays the original output.
+ *
+ * Usage: java ShardRouter <inputFile> [--shards=N] [--dedup-bytes=N]
+ */
+public class ShardRouter {
+
+    private static final int VIRTUAL_NODES = 64;
+    private static final int MAX_IN_FLIGHT = 4096;
+    private static final int CONNECT_ATTEMPTS = 100;
+    private static final long CONNECT_RETRY_MS = 100;
+    // Queued by a shard's reader thread once its worker is gone; compared by identity
+    private static final byte[] WORKER_EXITED = new byte[0];
+
+    static class Shard {
+        final int shardId;
+        final Process process;
+        final Socket socket;
+        final DataOutputStream out;
+        final BlockingQueue<byte[]> replies = new LinkedBlockingQueue<>();
+
+        Shard(int shardId, Process process, Socket socket) throws IOException {
+            this.shardId = shardId;
+            this.process = process;
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+
+    // Reply still owed to the output, in input order
+    static class Pending {
+        final int eventId;
+        final Shard shard;
+
+        Pending(int eventId, Shard shard) {
+            this.eventId = eventId;
+            this.shard = shard;
+        }
+    }
+
+    private final TreeMap<Long, Shard> ring = new TreeMap<>();
+    private final Map<Integer, Shard> shards = new TreeMap<>();
+    // Where each event's state lives right now; differs from the ring only during a rebalance
+    private final Map<Integer, Shard> eventOwners = new TreeMap<>();
+    private final Deque<Pending> inFlight = new ArrayDeque<>();
+    // Shards with requests still sitting in their output buffer, including one being removed
+    private final Set<Shard> unflushed = new LinkedHashSet<>();
+    private final BufferedWriter writer;
+    // Passed on to every worker, which gives each of its events a request ID cache of this size
+    private final String dedupBytesArg;
+    private int nextShardId = 0;
+
+    private ShardRouter(BufferedWriter writer, String dedupBytesArg) {
+        this.writer = writer;
+        this.dedupBytesArg = dedupBytesArg;
+    }
+
+    // --- Placement ---
+
+    private static long hash(long key) {
+        long h = key + 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private Shard ringOwner(int eventId) {
+        Map.Entry<Long, Shard> entry = ring.ceilingEntry(hash(eventId));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private Shard owner(int eventId) {
+        return eventOwners.computeIfAbsent(eventId, this::ringOwner);
+    }
+
+    // --- Shard Lifecycle ---
+
+    private Shard startShard() throws IOException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = probe.getLocalPort();
+        }
+
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>(Arrays.asList(java, "-cp", System.getProperty("java.class.path"),
+                "GatorTicketMaster", "--worker", String.valueOf(port)));
+        if (dedupBytesArg != null) command.add(dedupBytesArg);
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        Socket socket = null;
+        for (int attempt = 0; socket == null; attempt++) {
+            try {
+                socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            } catch (IOException e) {
+                if (attempt >= CONNECT_ATTEMPTS || !process.isAlive()) {
+                    process.destroy();
+                    throw new IOException("Shard worker on port " + port + " did not start", e);
+                }
+                try {
+                    Thread.sleep(CONNECT_RETRY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while starting shard worker", interrupted);
+                }
+            }
+        }
+        socket.setTcpNoDelay(true);
+
+        Shard shard = new Shard(nextShardId++, process, socket);
+        Thread reader = new Thread(() -> readReplies(shard), "shard-" + shard.shardId + "-replies");
+        reader.setDaemon(true);
+        reader.start();
+
+        shards.put(shard.shardId, shard);
+        for (int v = 0; v < VIRTUAL_NODES; v++) {
+            // Hashed twice so that virtual node keys never line up with the keys of small event IDs
+            ring.put(hash(hash(shard.shardId) + v), shard);
+        }
+        return shard;
+    }
+
+    // Runs on the shard's reader thread, so a worker never blocks on a full socket while the router is sending
+    private static void readReplies(Shard shard) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(shard.socket.getInputStream()))) {
+            while (true) {
+                shard.replies.put(GatorTicketMaster.ShardProtocol.readPayload(in));
+            }
+        } catch (IOException | InterruptedException e) {
+            // Worker closed the connection; replies already queued stay ahead of the marker
+            shard.replies.add(WORKER_EXITED);
+        }
+    }
+
+    private void stopShard(Shard shard) throws IOException {
+        request(shard, GatorTicketMaster.ShardProtocol.SHUTDOWN, 0, new byte[0]);
+        shard.socket.close();
+        try {
+            shard.process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- Requests ---
+
+    private void send(Shard shard, byte op, int eventId, byte[] payload) throws IOException {
+        GatorTicketMaster.ShardProtocol.writeRequest(shard.out, op, eventId, payload);
+        unflushed.add(shard);
+    }
+
+    // Requests are only flushed when the router is about to wait, so pipelined commands share writes
+    private byte[] awaitReply(Shard shard) throws IOException {
+        for (Shard pending : unflushed) {
+            pending.out.flush();
+        }
+        unflushed.clear();
+        byte[] reply;
+        try {
+            reply = shard.replies.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shard " + shard.shardId, e);
+        }
+        if (reply == WORKER_EXITED) {
+            // Left in place, so every later wait on this shard fails too
+            shard.replies.add(WORKER_EXITED);
+            throw new IOException("Shard " + shard.shardId + " worker exited before replying");
+        }
+        return reply;
+    }
+
+    // Synchronous request, only used once everything in flight has been drained
+    private byte[] request(Shard shard, byte op, int eventId, byte[] payload) throws IOException {
+        send(shard, op, eventId, payload);
+        return awaitReply(shard);
+    }
+
+    private void execute(int eventId, String command) throws IOException {
+        Shard shard = owner(eventId);
+        send(shard, GatorTicketMaster.ShardProtocol.EXECUTE, eventId, GatorTicketMaster.ShardProtocol.utf8(command));
+        inFlight.addLast(new Pending(eventId, shard));
+        if (inFlight.size() > MAX_IN_FLIGHT) {
+            writeNextReply();
+        }
+    }
+
+    private void writeNextReply() throws IOException {
+        Pending pending = inFlight.removeFirst();
+        String output = GatorTicketMaster.ShardProtocol.text(awaitReply(pending.shard));
+        for (String line : output.split("\n")) {
+            if (!line.isEmpty()) writer.write(pending.eventId + ": " + line + "\n");
+        }
+    }
+
+    private void drain() throws IOException {
+        while (!inFlight.isEmpty()) {
+            writeNextReply();
+        }
+    }
+
+    // --- Rebalancing ---
+
+    /**
+     * Moves every event whose ring owner changed, by exporting its snapshot from the
+     * current shard and importing it on the new one. Returns the number of events moved.
+     */
+    private int rebalance() throws IOException {
+        drain();
+        int moved = 0;
+        for (Map.Entry<Integer, Shard> entry : eventOwners.entrySet()) {
+            int eventId = entry.getKey();
+            Shard from = entry.getValue();
+            Shard to = ringOwner(eventId);
+            if (from == to) continue;
+
+            byte[] snapshot = request(from, GatorTicketMaster.ShardProtocol.EXPORT, eventId, new byte[0]);
+            request(to, GatorTicketMaster.ShardProtocol.IMPORT, eventId, snapshot);
+            entry.setValue(to);
+            moved++;
+        }
+        return moved;
+    }
+
+    private void addShard() throws IOException {
+        Shard shard = startShard();
+        int moved = rebalance();
+        writer.write("Shard " + shard.shardId + " added, " + moved + " events moved\n");
+    }
+
+    private void removeShard(int shardId) throws IOException {
+        Shard shard = shards.get(shardId);
+        if (shard == null) {
+            writer.write("Shard " + shardId + " does not exist\n");
+            return;
+        }
+        if (shards.size() == 1) {
+            writer.write("Shard " + shardId + " is the last shard and cannot be removed\n");
+            return;
+        }
+
+        shards.remove(shardId);
+        ring.values().removeIf(s -> s == shard);
+        int moved = rebalance();
+        stopShard(shard);
+        writer.write("Shard " + shardId + " removed, " + moved + " events moved\n");
+    }
+
+    private void shutdown() throws IOException {
+        drain();
+        for (Shard shard : new ArrayList<>(shards.values())) {
+            stopShard(shard);
+        }
+        shards.clear();
+        ring.clear();
+    }
+
+    // --- Driver ---
+
+    /**
+     * Routes one input line. Returns false once the router should stop.
+     */
+    private boolean route(String line) throws IOException {
+        line = line.trim();
+        if (line.isEmpty()) return true;
+
+        int openParen = line.indexOf('(');
+        int colon = line.indexOf(':');
+        if (colon != -1 && (openParen == -1 || colon < openParen)) {
+            int eventId = Integer.parseInt(line.substring(0, colon).trim());
+            execute(eventId, line.substring(colon + 1).trim());
+            return true;
+        }
+
+        drain();
+        String command = openParen == -1 ? line : line.substring(0, openParen).trim();
+        switch (command) {
+            case "AddShard":
+                addShard();
+                return true;
+            case "RemoveShard":
+                int closeParen = line.indexOf(')');
+                removeShard(Integer.parseInt(line.substring(openParen + 1, closeParen).trim()));
+                return true;
+            case "Quit":
+                shutdown();
+                writer.write("Program Terminated!!\n");
+                return false;
+            default:
+                writer.write("Unknown router command '" + line + "'\n");
+                return true;
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java ShardRouter <inputFile> [--shards=N] [--dedup-bytes=N]");
+            return;
+        }
+
+        String inputFile = args[0];
+        int shardCount = Runtime.getRuntime().availableProcessors();
+        String dedupBytesArg = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--shards=")) {
+                shardCount = Integer.parseInt(args[i].substring("--shards=".length()));
+            } else if (args[i].startsWith("--dedup-bytes=")) {
+                dedupBytesArg = "--dedup-bytes=" + Long.parseLong(args[i].substring("--dedup-bytes=".length()));
+            }
+        }
+        String outputFile = inputFile.replace(".txt", "_output_file.txt");
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFile));
+             BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile))) {
+
+            ShardRouter router = new ShardRouter(writer, dedupBytesArg);
+            try {
+                for (int i = 0; i < Math.max(shardCount, 1); i++) {
+                    router.startShard();
+                }
+
+                String line;
+                boolean running = true;
+                while (running && (line = reader.readLine()) != null) {
+                    try {
+                        running = router.route(line);
+                    } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                        router.drain();
+                        writer.write("Error processing command '" + line + "': " + e.getMessage() + "\n");
+                    }
+                }
+                if (running) router.shutdown();
+            } finally {
+                for (Shard shard : router.shards.values()) {
+                    shard.process.destroy();
+                }
+            }
+
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
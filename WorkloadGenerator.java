@@ -0,0 +1,287 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Seeded generator of GatorTicketMaster input files. A workload opens with an on-sale
+ * spike that overfills the venue, then runs a steady mix of new reservations, cancel
+ * churn, priority updates, waitlist exits, seat additions and wide ReleaseSeats ranges.
+ *
+ * Only the commands shared with gatorTicketMaster.py are generated, so the same file can
+ * be run through both implementations. The same seed and size always give the same file.
+ */
+public class WorkloadGenerator {
+
+    // Share of the steady phase taken by each command, in percent
+    private static final int RESERVE_PCT = 35;
+    private static final int CANCEL_PCT = 25;
+    private static final int UPDATE_PRIORITY_PCT = 12;
+    private static final int EXIT_WAITLIST_PCT = 8;
+    private static final int ADD_SEATS_PCT = 2;
+
+    // Wide ReleaseSeats are rare events, each covering up to 1/RELEASE_WIDTH_DIVISOR of all users
+    private static final int RELEASE_SEATS_EVENTS = 10;
+    private static final int RELEASE_WIDTH_DIVISOR = 100;
+
+    // Share of cancels and updates aimed at users that do not hold what the command expects
+    private static final int MISS_PCT = 10;
+
+    // PrintReservations lists every seat, so it is only emitted for small workloads
+    private static final int PRINT_LIMIT = 10000;
+
+    private static final int MAX_PRIORITY = 5;
+    private static final int MAX_ADDED_SEATS = 4;
+
+    private final Random random;
+    private final int users;
+    private final List<String> commands = new ArrayList<>();
+
+    // Shadow copy of the engine state, so that most cancels and updates hit real reservations
+    private final TreeSet<Integer> freeSeats = new TreeSet<>();
+    private final Map<Integer, Integer> seatsByUser = new HashMap<>();
+    private final IndexedSet reservedUsers = new IndexedSet();
+    private final IndexedSet waitlistedUsers = new IndexedSet();
+    private final Map<Integer, long[]> waitlistEntries = new HashMap<>();
+    // Entries are {priority, arrival, userId}: higher priority first, then earlier arrival
+    private final TreeSet<long[]> waitlist = new TreeSet<>(
+            Comparator.<long[]>comparingLong(e -> -e[0]).thenComparingLong(e -> e[1]));
+    private int maxSeats = 0;
+    private int nextUser = 1;
+    private long arrivals = 0;
+
+    private WorkloadGenerator(int users, long seed) {
+        this.users = users;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Returns the command lines of one workload for the given number of users.
+     */
+    public static List<String> generate(int users, long seed) {
+        WorkloadGenerator generator = new WorkloadGenerator(Math.max(users, 1), seed);
+        generator.run();
+        return generator.commands;
+    }
+
+    private void run() {
+        int seats = Math.max(users / 2, 1);
+        emit("Initialize(" + seats + ")");
+        addSeats(seats);
+
+        // On-sale spike: most users arrive at once and the overflow lands on the waitlist
+        int spike = Math.max(users * 3 / 5, 1);
+        for (int i = 0; i < spike && nextUser <= users; i++) {
+            reserveNewUser();
+        }
+        emit("Available()");
+
+        int steadyOps = users * 2;
+        for (int i = 0; i < steadyOps; i++) {
+            if (random.nextInt(steadyOps) < RELEASE_SEATS_EVENTS) {
+                releaseSeats();
+                continue;
+            }
+
+            int roll = random.nextInt(100);
+            if ((roll -= RESERVE_PCT) < 0) {
+                if (nextUser <= users) reserveNewUser();
+                else cancel();
+            } else if ((roll -= CANCEL_PCT) < 0) {
+                cancel();
+            } else if ((roll -= UPDATE_PRIORITY_PCT) < 0) {
+                updatePriority();
+            } else if ((roll -= EXIT_WAITLIST_PCT) < 0) {
+                exitWaitlist();
+            } else if ((roll -= ADD_SEATS_PCT) < 0) {
+                int count = 1 + random.nextInt(MAX_ADDED_SEATS);
+                emit("AddSeats(" + count + ")");
+                addSeats(count);
+            } else {
+                emit("Available()");
+            }
+        }
+
+        emit("Available()");
+        if (users <= PRINT_LIMIT) emit("PrintReservations()");
+        emit("Quit()");
+    }
+
+    private void emit(String command) {
+        commands.add(command);
+    }
+
+    private int randomUser() {
+        return 1 + random.nextInt(users);
+    }
+
+    private void reserveNewUser() {
+        int userId = nextUser++;
+        int priority = 1 + random.nextInt(MAX_PRIORITY);
+        emit("Reserve(" + userId + ", " + priority + ")");
+
+        if (freeSeats.isEmpty()) {
+            long[] entry = {priority, arrivals++, userId};
+            waitlist.add(entry);
+            waitlistEntries.put(userId, entry);
+            waitlistedUsers.add(userId);
+        } else {
+            assign(userId, freeSeats.pollFirst());
+        }
+    }
+
+    private void cancel() {
+        int userId;
+        int seatId;
+        if (reservedUsers.isEmpty() || random.nextInt(100) < MISS_PCT) {
+            userId = randomUser();
+            seatId = 1 + random.nextInt(Math.max(maxSeats, 1));
+        } else {
+            userId = reservedUsers.pick(random);
+            seatId = seatsByUser.get(userId);
+        }
+        emit("Cancel(" + seatId + ", " + userId + ")");
+
+        Integer heldSeat = seatsByUser.get(userId);
+        if (heldSeat == null || heldSeat != seatId) return;
+        unassign(userId);
+        if (!waitlist.isEmpty()) {
+            assign(pollWaitlist(), seatId);
+        } else {
+            freeSeats.add(seatId);
+        }
+    }
+
+    private void updatePriority() {
+        int priority = 1 + random.nextInt(MAX_PRIORITY);
+        boolean miss = waitlistedUsers.isEmpty() || random.nextInt(100) < MISS_PCT;
+        int userId = miss ? randomUser() : waitlistedUsers.pick(random);
+        emit("UpdatePriority(" + userId + ", " + priority + ")");
+
+        long[] entry = waitlistEntries.get(userId);
+        if (entry == null) return;
+        waitlist.remove(entry);
+        entry[0] = priority;
+        waitlist.add(entry);
+    }
+
+    private void exitWaitlist() {
+        boolean miss = waitlistedUsers.isEmpty() || random.nextInt(100) < MISS_PCT;
+        int userId = miss ? randomUser() : waitlistedUsers.pick(random);
+        emit("ExitWaitlist(" + userId + ")");
+        removeFromWaitlist(userId);
+    }
+
+    private void addSeats(int count) {
+        for (int i = 0; i < count; i++) {
+            maxSeats++;
+            if (!waitlist.isEmpty()) {
+                assign(pollWaitlist(), maxSeats);
+            } else {
+                freeSeats.add(maxSeats);
+            }
+        }
+    }
+
+    // Wide ranges model the admin clearing a block of suspicious accounts
+    private void releaseSeats() {
+        int width = 1 + random.nextInt(Math.max(users / RELEASE_WIDTH_DIVISOR, 1));
+        int userId1 = randomUser();
+        int userId2 = Math.min(userId1 + width - 1, users);
+        emit("ReleaseSeats(" + userId1 + ", " + userId2 + ")");
+
+        int released = 0;
+        for (int userId = userId1; userId <= userId2; userId++) {
+            Integer seatId = seatsByUser.get(userId);
+            if (seatId != null) {
+                unassign(userId);
+                freeSeats.add(seatId);
+                released++;
+            } else {
+                removeFromWaitlist(userId);
+            }
+        }
+        for (int i = 0; i < released && !waitlist.isEmpty(); i++) {
+            assign(pollWaitlist(), freeSeats.pollFirst());
+        }
+    }
+
+    private void assign(int userId, int seatId) {
+        seatsByUser.put(userId, seatId);
+        reservedUsers.add(userId);
+    }
+
+    private void unassign(int userId) {
+        seatsByUser.remove(userId);
+        reservedUsers.remove(userId);
+    }
+
+    private int pollWaitlist() {
+        int userId = (int) waitlist.pollFirst()[2];
+        waitlistEntries.remove(userId);
+        waitlistedUsers.remove(userId);
+        return userId;
+    }
+
+    private void removeFromWaitlist(int userId) {
+        long[] entry = waitlistEntries.remove(userId);
+        if (entry != null) {
+            waitlist.remove(entry);
+            waitlistedUsers.remove(userId);
+        }
+    }
+
+    // Set of user IDs with O(1) add, remove and uniform random pick
+    private static class IndexedSet {
+        private final List<Integer> items = new ArrayList<>();
+        private final Map<Integer, Integer> positions = new HashMap<>();
+
+        boolean isEmpty() {
+            return items.isEmpty();
+        }
+
+        void add(int item) {
+            if (positions.containsKey(item)) return;
+            positions.put(item, items.size());
+            items.add(item);
+        }
+
+        void remove(int item) {
+            Integer idx = positions.remove(item);
+            if (idx == null) return;
+            int last = items.remove(items.size() - 1);
+            if (idx < items.size()) {
+                items.set(idx, last);
+                positions.put(last, idx);
+            }
+        }
+
+        int pick(Random random) {
+            return items.get(random.nextInt(items.size()));
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: java WorkloadGenerator <users> <seed> <outputFile>");
+            return;
+        }
+
+        int users = Integer.parseInt(args[0]);
+        long seed = Long.parseLong(args[1]);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(args[2]))) {
+            for (String command : generate(users, seed)) {
+                writer.write(command);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}